@@ -0,0 +1,56 @@
+#!/bin/sh
+# Builds the application for fast one-shot launches:
+#   1. Compiles the sources and packages build/wcloud.jar
+#   2. Precompiles ignorewords.txt into the binary ignorewords.idx index
+#   3. Generates an AppCDS archive (build/wcloud.jsa) from a training run, so later
+#      runs can load their classes from the archive instead of parsing the class files
+#
+# Usage: ./build.sh         Build everything
+#        ./build.sh bench   Build everything, then compare startup time with and without the archive
+#
+# Fast launch: java -XX:SharedArchiveFile=build/wcloud.jsa -XX:TieredStopAtLevel=1 -jar build/wcloud.jar <input file> <output name>
+# TieredStopAtLevel=1 skips the optimizing compiler, whose work does not pay off in a run this short.
+# Requires JDK 13 or newer, and must be run from the project root so ./ignorewords.txt is found.
+set -e
+
+BUILD_DIR=build
+JAR="$BUILD_DIR/wcloud.jar"
+ARCHIVE="$BUILD_DIR/wcloud.jsa"
+JAVA_OPTS="-Djava.awt.headless=true"
+FAST_OPTS="-XX:SharedArchiveFile=$ARCHIVE -XX:TieredStopAtLevel=1"
+
+rm -rf "$BUILD_DIR"
+mkdir -p "$BUILD_DIR/classes"
+
+echo "Compiling sources..."
+javac --release 16 -encoding ISO-8859-1 -d "$BUILD_DIR/classes" src/ie/gmit/dip/*.java
+jar --create --file "$JAR" --main-class ie.gmit.dip.Runner -C "$BUILD_DIR/classes" .
+
+echo "Precompiling stop-word index..."
+java $JAVA_OPTS -cp "$JAR" ie.gmit.dip.IgnoredWords
+
+# The training run loads every class a one-shot run needs, and they are written to the archive on exit
+echo "Generating AppCDS archive..."
+java $JAVA_OPTS -XX:ArchiveClassesAtExit="$ARCHIVE" -jar "$JAR" lotr.txt "$BUILD_DIR/training"
+
+if [ "$1" = "bench" ]; then
+	RUNS=10
+	echo "the quick brown fox jumps over the lazy dog" > "$BUILD_DIR/bench.txt"
+
+	# Prints the average wall-clock time in milliseconds of a one-shot run with the passed-in JVM options
+	bench() {
+		start=$(date +%s%N)
+		i=0
+		while [ $i -lt $RUNS ]; do
+			java $JAVA_OPTS "$@" -jar "$JAR" "$BUILD_DIR/bench.txt" "$BUILD_DIR/bench"
+			i=$((i + 1))
+		done
+		end=$(date +%s%N)
+		echo $(((end - start) / RUNS / 1000000))
+	}
+
+	echo "Average one-shot run over $RUNS runs:"
+	echo "  Default launch: $(bench -Xshare:auto) ms"
+	echo "  AppCDS launch:  $(bench -XX:SharedArchiveFile="$ARCHIVE") ms"
+	echo "  Fast launch:    $(bench $FAST_OPTS) ms"
+fi
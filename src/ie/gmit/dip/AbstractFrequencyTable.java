@@ -1,6 +1,8 @@
 package ie.gmit.dip;
 
+import java.util.List;
 import java.util.Map;
+import java.util.function.ObjIntConsumer;
 
 /**
 * AbstractFrequencyTable used to define basic functionality that derived classes must implement
@@ -46,6 +48,32 @@ public abstract class AbstractFrequencyTable {
     */
 	abstract void incrementFrequency(String word);
 
+	/**
+	* Implementation should add the passed-in amount to the frequency of the passed-in word,
+	* adding the word to the frequency table if it is not already present
+	*
+	* @param word The word whose frequency is to be increased
+	* @param amount The amount to add to the frequency of the word
+    */
+	abstract void addFrequency(String word, int amount);
+
+	/**
+	* Implementation should return up to the passed-in number of words in the table's current order,
+	* without copying the rest of the table. On a sorted table these are the most frequent words
+	*
+	* @param count The maximum number of words to be returned
+	* @return List<String> The first words of the table
+    */
+	abstract List<String> getTopWords(int count);
+
+	/**
+	* Implementation should pass every word and its frequency to the action,
+	* in the table's current order, without copying the table
+	*
+	* @param action The action to be performed for each word and its frequency
+    */
+	abstract void forEachWord(ObjIntConsumer<String> action);
+
 	/**
 	* Implementation should clear the table of its key-value mappings
     */
@@ -8,6 +8,7 @@ import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.ObjIntConsumer;
 
 /**
 * FrequencyTable used to store words and their frequency as key-value pairs, 
@@ -95,6 +96,90 @@ public class FrequencyTable extends AbstractFrequencyTable {
 		}
 	}
 
+	/**
+	* Adds the passed-in amount to the frequency of the passed-in word,
+	* or sets it to the amount if it is not already present in the frequency table
+	*
+	* @param word The word whose frequency is to be increased
+	* @param amount The amount to add to the frequency of the word
+    */
+	// Running time: O(1)/constant - uses LinkedHashMap.merge() which is constant time
+	@Override
+	public void addFrequency(String word, int amount) {
+		table.merge(word, amount, Integer::sum);
+		setIsSorted(false); // The new frequency may be out of order
+	}
+
+	/**
+	* Returns up to the passed-in number of words in the table's current order
+	*
+	* @param count The maximum number of words to be returned
+	* @return List<String> The first words of the table
+    */
+	// Running time: O(n)/linear - grows with the number of words returned, the rest of the table is not visited
+	@Override
+	public List<String> getTopWords(int count) {
+		List<String> words = new ArrayList<>(Math.min(count, table.size()));
+
+		for (String word : table.keySet()) {
+			if (words.size() >= count) {
+				break;
+			}
+			words.add(word);
+		}
+		return words;
+	}
+
+	/**
+	* Passes every word and its frequency to the action, in the table's current order
+	*
+	* @param action The action to be performed for each word and its frequency
+    */
+	// Running time: O(n)/linear - visits every key-value pair once
+	@Override
+	public void forEachWord(ObjIntConsumer<String> action) {
+		for (Map.Entry<String, Integer> entry : table.entrySet()) {
+			action.accept(entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	* Sets the frequency of the passed-in word, or removes the word if the frequency is not positive
+	*
+	* @param word The word whose frequency is to be set
+	* @param frequency The new frequency of the word
+    */
+	// Running time: O(1)/constant - uses LinkedHashMap.put() and LinkedHashMap.remove()
+	// which are both constant time
+	public void setFrequency(String word, int frequency) {
+		if (frequency > 0) {
+			table.put(word, frequency);
+		} else { // A word with no occurrences is not kept in the table
+			table.remove(word);
+		}
+		setIsSorted(false);
+	}
+
+	/**
+	* Removes the frequency of every word in the passed-in frequency table from this frequency table.
+	* Words whose frequency drops to 0 are removed from the table
+	*
+	* @param other The frequency table whose words are to be removed
+    */
+	// Running time: O(n)/linear - uses LinkedHashMap.computeIfPresent(), which is constant time,
+	// once for every key-value pair of the other table
+	public void subtract(FrequencyTable other) {
+		for (Map.Entry<String, Integer> entry : other.getTable().entrySet()) {
+			int count = entry.getValue();
+			table.computeIfPresent(entry.getKey(), (word, frequency) -> frequency > count ? frequency - count : null);
+		}
+
+		// Removing nothing leaves the order as it was
+		if (!other.getTable().isEmpty()) {
+			setIsSorted(false);
+		}
+	}
+
 	/**
 	* Clears the table of its key-value mappings
     */
@@ -1,11 +1,23 @@
 package ie.gmit.dip;
 
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
 * IgnoredWords used create list of words to be ignored, and check that a word is not in that list
@@ -13,8 +25,17 @@ import java.util.ArrayList;
 public class IgnoredWords {
 	// Constant and not intended to be changed or mutated by code
 	private static final String FILE_PATH = "./ignorewords.txt";
+	private static final String INDEX_PATH = "./ignorewords.idx";
+	private static final int INDEX_MAGIC = 0x57434958; // "WCIX", marks a file as a stop-word index
 
-	private static ArrayList<String> ignoredWords = new ArrayList<String>();
+	private static final int MAX_WORD_BYTES = 0xFFFF; // Largest length the index can store for a word
+
+	// A HashSet is used because it has constant time lookups and does not keep duplicate words.
+	// Only used when there is no up-to-date index
+	private static Set<String> ignoredWords = new HashSet<String>();
+
+	// The memory-mapped index, searched in place without decoding its words. Null when the text file is used
+	private static MappedByteBuffer index;
 
 	/**
 	* Checks if the passed-in word is in the list of words to be ignored
@@ -22,8 +43,13 @@ public class IgnoredWords {
 	* @param word The word to be checked
 	* @return boolean Indicates whether the word is to be ignored or not
     */
-	// Running time: O(n)/linear - uses ArrayList.contains() which is O(n)
+	// Running time: O(log n) when the index is used, since it is binary searched.
+	// Otherwise O(1)/constant - uses HashSet.contains() which is constant time
 	public static boolean checkIfIgnored(String word) {
+		if (index != null) {
+			return searchIndex(word.getBytes(StandardCharsets.UTF_8));
+		}
+
 		if (ignoredWords.contains(word)) {
 			return true;
 		} else {
@@ -32,13 +58,175 @@ public class IgnoredWords {
 	}
 
 	/**
-	* Adds the words in the ignorewords.txt file to an arraylist
+	* Loads the words to be ignored, replacing any words loaded by a previous call.
+	* The precompiled ignorewords.idx index is memory-mapped if it is at least as new as ignorewords.txt,
+	* otherwise the words are read from the ignorewords.txt file into a set
     */
 	// Running time: O(n)/linear - time taken grows linearly as the input file has
-	// more words to be added to arraylist
+	// more words to be read or checked
 	public static void createIgnoredWordsArray() throws IOException {
-		BufferedReader reader; 
-		
+		File textFile = new File(FILE_PATH);
+		File indexFile = new File(INDEX_PATH);
+
+		// Remove words from previous calls, so the words always match the file
+		ignoredWords.clear();
+		index = null;
+
+		// An index older than the text file would be missing the latest changes to the word list
+		if (indexFile.exists() && indexFile.lastModified() >= textFile.lastModified()) {
+			index = mapIndex(indexFile);
+		} else {
+			ignoredWords.addAll(readTextFile());
+		}
+	}
+
+	/**
+	* Precompiles the words in the ignorewords.txt file into the binary ignorewords.idx index.
+	* The index holds a header with the number of words, a table with the position of each word,
+	* and the words themselves as UTF-8 bytes sorted so they can be binary searched
+	*
+	* @param args Not used
+    */
+	// Running time: O(n log n) - uses List.sort() to sort the words, which is O(n*log(n))
+	public static void main(String[] args) throws IOException {
+		// Words are sorted by their unsigned UTF-8 bytes, the same order searchIndex() compares them in
+		List<byte[]> words = new ArrayList<byte[]>();
+		for (String word : readTextFile()) {
+			byte[] bytes = word.getBytes(StandardCharsets.UTF_8);
+
+			// The length of each word is stored in 2 bytes, so longer words can't be stored
+			if (bytes.length > MAX_WORD_BYTES) {
+				throw new IOException("Word is too long to be indexed (" + bytes.length + " bytes): "
+						+ word.substring(0, 20) + "...");
+			}
+			words.add(bytes);
+		}
+		words.sort(Arrays::compareUnsigned);
+
+		DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(INDEX_PATH)));
+
+		try {
+			// Header containing the magic number and the number of words
+			output.writeInt(INDEX_MAGIC);
+			output.writeInt(words.size());
+
+			// Table containing the position of each word in the file, so any word can be found in constant time
+			int position = 8 + 4 * words.size();
+			for (byte[] word : words) {
+				output.writeInt(position);
+				position += 2 + word.length;
+			}
+
+			// Each word is stored as its length in bytes, followed by its UTF-8 bytes
+			for (byte[] word : words) {
+				output.writeShort(word.length);
+				output.write(word);
+			}
+		} finally {
+			output.close();
+		}
+
+		System.out.println("Wrote " + words.size() + " words to " + INDEX_PATH);
+	}
+
+	/**
+	* Memory-maps the binary index and checks that every word in it lies within the file,
+	* so that later searches can't read past the end of the buffer
+	*
+	* @param indexFile The index file created by main()
+	* @return MappedByteBuffer The mapped index
+    */
+	// Running time: O(n)/linear - each entry of the position table is checked once
+	private static MappedByteBuffer mapIndex(File indexFile) throws IOException {
+		RandomAccessFile file = new RandomAccessFile(indexFile, "r");
+		MappedByteBuffer buffer;
+
+		// The mapping stays valid after the file is closed
+		try {
+			buffer = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, file.length());
+		} finally {
+			file.close();
+		}
+
+		int limit = buffer.limit();
+		if (limit < 8 || buffer.getInt(0) != INDEX_MAGIC) {
+			throw new IOException("Invalid stop-word index: " + indexFile);
+		}
+
+		int count = buffer.getInt(4);
+		if (count < 0 || 8 + 4L * count > limit) {
+			throw new IOException("Invalid stop-word index: " + indexFile);
+		}
+
+		for (int i = 0; i < count; i++) {
+			long position = buffer.getInt(8 + 4 * i);
+			if (position < 0 || position + 2 > limit
+					|| position + 2 + (buffer.getShort((int) position) & 0xFFFF) > limit) {
+				throw new IOException("Invalid stop-word index: " + indexFile);
+			}
+		}
+		return buffer;
+	}
+
+	/**
+	* Binary searches the mapped index for the passed-in word, comparing the bytes in place
+	*
+	* @param word The UTF-8 bytes of the word to be found
+	* @return boolean Indicates whether the word is in the index or not
+    */
+	// Running time: O(log n) - halves the number of words left to search on each comparison
+	private static boolean searchIndex(byte[] word) {
+		int low = 0;
+		int high = index.getInt(4) - 1;
+
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int comparison = compareEntry(index.getInt(8 + 4 * middle), word);
+
+			if (comparison < 0) {
+				low = middle + 1;
+			} else if (comparison > 0) {
+				high = middle - 1;
+			} else {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	* Compares the word stored at the passed-in position of the index with the passed-in word,
+	* by their unsigned bytes. Only absolute reads are used, so concurrent searches are safe
+	*
+	* @param position The position of the stored word's length in the index
+	* @param word The UTF-8 bytes of the word to be compared
+	* @return int Negative, zero or positive if the stored word is before, equal to or after the word
+    */
+	// Running time: O(n)/linear - grows with the length of the words being compared
+	private static int compareEntry(int position, byte[] word) {
+		int length = index.getShort(position) & 0xFFFF; // Read as unsigned, lengths go up to 65535
+
+		for (int i = 0; i < Math.min(length, word.length); i++) {
+			int comparison = Integer.compare(Byte.toUnsignedInt(index.get(position + 2 + i)),
+					Byte.toUnsignedInt(word[i]));
+			if (comparison != 0) {
+				return comparison;
+			}
+		}
+		return Integer.compare(length, word.length);
+	}
+
+	/**
+	* Reads the normalized words in the ignorewords.txt file
+	*
+	* @return Set<String> The words to be ignored
+    */
+	// Running time: O(n)/linear - time taken grows linearly as the input file has
+	// more words to be read
+	private static Set<String> readTextFile() throws IOException {
+		BufferedReader reader;
+		Set<String> words = new HashSet<String>();
+
 		// Read text from the ignorewords.txt file
 		try {
 			reader = new BufferedReader(new InputStreamReader(new FileInputStream(FILE_PATH)));
@@ -50,12 +238,14 @@ public class IgnoredWords {
 			String currentWord;
 			// Read each line until the end of the stream/file has been reached
 			while ((currentWord = reader.readLine()) != null) {
-				// Add the normalized word to be ignored to the arraylist
-				ignoredWords.add(currentWord.toLowerCase());
+				// Add the normalized word to be ignored to the set
+				words.add(currentWord.toLowerCase());
 			}
 		} catch (IOException e) {
 			throw new IOException("Error reading from file. Error: " + e);
+		} finally {
+			reader.close();
 		}
-		reader.close();
+		return words;
 	}
 }
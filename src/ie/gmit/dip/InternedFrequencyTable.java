@@ -0,0 +1,291 @@
+package ie.gmit.dip;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+/**
+* InternedFrequencyTable used to store the frequency of words as an array of counts indexed by the
+* word's ID in the WordDictionary. Words are not stored in the table, so many tables with the same
+* vocabulary use far less memory than the same number of FrequencyTables
+*/
+public class InternedFrequencyTable extends AbstractFrequencyTable {
+	private int[] counts; // Frequency of each word, indexed by the word's ID
+	private int[] sortedIds; // IDs of the words in the table from highest to lowest frequency, set by sort()
+	private int wordCount; // Number of words in the table with a frequency above 0
+	private boolean isSorted; // Keeps track of whether frequency table is sorted or not
+
+	/**
+	* Constructor to initialize a new InternedFrequencyTable instance
+    */
+	public InternedFrequencyTable() {
+		this.counts = new int[16];
+		this.sortedIds = new int[0];
+		this.wordCount = 0;
+		this.isSorted = false;
+	}
+
+	/**
+	* Builds a table containing the key-value pairs. If the table is sorted the words are in
+	* descending order of frequency, otherwise they are in the order the dictionary first saw them.
+	* The returned map is a copy, so changes to it are not written back to this table.
+	* Use getTopWords() or forEachWord() to read the table without copying it
+	*
+	* @return Map<String, Integer> The Map containing the words (key) and their frequency (value)
+    */
+	// Running time: O(n)/linear - one key-value pair is added for every word
+	@Override
+	public Map<String, Integer> getTable() {
+		Map<String, Integer> table = new LinkedHashMap<>();
+
+		if (isSorted) {
+			for (int id : sortedIds) {
+				table.put(WordDictionary.getWord(id), counts[id]);
+			}
+		} else {
+			for (int id = 0; id < counts.length; id++) {
+				if (counts[id] > 0) {
+					table.put(WordDictionary.getWord(id), counts[id]);
+				}
+			}
+		}
+		return table;
+	}
+
+	/**
+	* Getter for isSorted
+	*
+	* @return boolean The boolean showing whether the table is sorted or not
+    */
+	// Running time: O(1)/constant - takes no input
+	@Override
+	public boolean getIsSorted() {
+		return isSorted;
+	}
+
+	/**
+	* Setter for isSorted
+	*
+	* @param state The state of the frequency table in terms of whether its sorted or not
+    */
+	// Running time: O(1)/constant - does not vary depending on size of input
+	@Override
+	public void setIsSorted(boolean state) {
+		isSorted = state;
+	}
+
+	/**
+	* Returns the frequency of the passed-in word
+	*
+	* @param word The word whose frequency is to be returned
+	* @return int The frequency of the passed-in word
+    */
+	// Running time: O(1)/constant - uses WordDictionary.findId() which is constant time
+	@Override
+	public int getFrequency(String word) {
+		int id = WordDictionary.findId(word);
+
+		if (id >= 0 && id < counts.length) { // If the table has a count for the word, return it
+			return counts[id];
+		} else { // Otherwise return 0, since the word isn't found
+			return 0;
+		}
+	}
+
+	/**
+	* Increments the frequency of the passed-in word,
+	* or sets it to 1 if it is not already present in the frequency table
+	*
+	* @param word The word whose frequency is to be incremented
+    */
+	// Running time: O(1)/constant - uses WordDictionary.getId() which is constant time.
+	// Growing the counts array is amortized constant time
+	@Override
+	public void incrementFrequency(String word) {
+		int id = WordDictionary.getId(word);
+		ensureCapacity(id + 1);
+
+		if (counts[id] == 0) {
+			wordCount++;
+		}
+		counts[id]++;
+		setIsSorted(false); // The new frequency may be out of order
+	}
+
+	/**
+	* Adds the passed-in amount to the frequency of the passed-in word,
+	* or sets it to the amount if it is not already present in the frequency table
+	*
+	* @param word The word whose frequency is to be increased
+	* @param amount The amount to add to the frequency of the word
+    */
+	// Running time: O(1)/constant - uses WordDictionary.getId() which is constant time.
+	// Growing the counts array is amortized constant time
+	@Override
+	public void addFrequency(String word, int amount) {
+		if (amount <= 0) {
+			return; // Nothing to add
+		}
+
+		int id = WordDictionary.getId(word);
+		ensureCapacity(id + 1);
+
+		if (counts[id] == 0) {
+			wordCount++;
+		}
+		counts[id] += amount;
+		setIsSorted(false); // The new frequency may be out of order
+	}
+
+	/**
+	* Returns up to the passed-in number of words, from highest to lowest frequency if the table is sorted,
+	* otherwise in the order the dictionary first saw them
+	*
+	* @param count The maximum number of words to be returned
+	* @return List<String> The first words of the table
+    */
+	// Running time: O(n)/linear - grows with the number of words returned when sorted. When not sorted
+	// the counts are scanned until enough words are found
+	@Override
+	public List<String> getTopWords(int count) {
+		List<String> words = new ArrayList<>(Math.min(count, wordCount));
+
+		if (isSorted) {
+			for (int i = 0; i < sortedIds.length && words.size() < count; i++) {
+				words.add(WordDictionary.getWord(sortedIds[i]));
+			}
+		} else {
+			for (int id = 0; id < counts.length && words.size() < count; id++) {
+				if (counts[id] > 0) {
+					words.add(WordDictionary.getWord(id));
+				}
+			}
+		}
+		return words;
+	}
+
+	/**
+	* Passes every word and its frequency to the action, from highest to lowest frequency if the
+	* table is sorted, otherwise in the order the dictionary first saw them
+	*
+	* @param action The action to be performed for each word and its frequency
+    */
+	// Running time: O(n)/linear - visits every count once
+	@Override
+	public void forEachWord(ObjIntConsumer<String> action) {
+		if (isSorted) {
+			for (int id : sortedIds) {
+				action.accept(WordDictionary.getWord(id), counts[id]);
+			}
+		} else {
+			for (int id = 0; id < counts.length; id++) {
+				if (counts[id] > 0) {
+					action.accept(WordDictionary.getWord(id), counts[id]);
+				}
+			}
+		}
+	}
+
+	/**
+	* Adds the frequency of every word in the passed-in table to this table
+	*
+	* @param other The table whose words are to be added
+    */
+	// Running time: O(n)/linear - loops once over the counts of the other table
+	public void merge(InternedFrequencyTable other) {
+		ensureCapacity(other.counts.length);
+
+		for (int id = 0; id < other.counts.length; id++) {
+			if (counts[id] == 0 && other.counts[id] > 0) {
+				wordCount++;
+			}
+			counts[id] += other.counts[id];
+		}
+		setIsSorted(false);
+	}
+
+	/**
+	* Removes the frequency of every word in the passed-in table from this table.
+	* Frequencies do not go below 0
+	*
+	* @param other The table whose words are to be removed
+    */
+	// Running time: O(n)/linear - loops once over the counts both tables have
+	public void subtract(InternedFrequencyTable other) {
+		int length = Math.min(counts.length, other.counts.length);
+
+		for (int id = 0; id < length; id++) {
+			if (counts[id] > 0 && counts[id] <= other.counts[id]) {
+				wordCount--;
+			}
+			counts[id] = Math.max(counts[id] - other.counts[id], 0);
+		}
+		setIsSorted(false);
+	}
+
+	/**
+	* Clears the table of its key-value mappings
+    */
+	// Running time: O(n)/linear - uses Arrays.fill() which is linear time
+	@Override
+	public void clear() {
+		Arrays.fill(counts, 0);
+		sortedIds = new int[0];
+		wordCount = 0;
+		setIsSorted(false);
+	}
+
+	/**
+	* Sort key-value pairs from highest to lowest. Words with the same frequency
+	* are kept in the order the dictionary first saw them
+    */
+	// Running time: O(n log n) - uses Arrays.sort() which is is O(n*log(n))
+	@Override
+	public void sort() throws Exception {
+		// Check that there is data to be sorted
+		if (wordCount == 0) {
+			// If there isn't, throw exception and give user feedback
+			throw new Exception("The frequency table is empty and cannot be sorted.");
+		}
+
+		// If already sorted, give user feedback and exit method
+		if (getIsSorted()) {
+			System.out.println("The frequency table is already sorted");
+			return;
+		}
+
+		// Copy the IDs of the words in the table, so they can be sorted by their frequency
+		Integer[] ids = new Integer[wordCount];
+		int index = 0;
+		for (int id = 0; id < counts.length; id++) {
+			if (counts[id] > 0) {
+				ids[index++] = id;
+			}
+		}
+
+		// Arrays.sort() is stable, so IDs with the same frequency stay in ascending order
+		Arrays.sort(ids, (a, b) -> Integer.compare(counts[b], counts[a]));
+
+		sortedIds = new int[wordCount];
+		for (int i = 0; i < wordCount; i++) {
+			sortedIds[i] = ids[i];
+		}
+
+		setIsSorted(true);
+	}
+
+	/**
+	* Grows the counts array so it can hold at least the passed-in number of IDs
+	*
+	* @param capacity The number of IDs the counts array must be able to hold
+    */
+	// Running time: O(n)/linear when growing, since the counts are copied to a new array
+	private void ensureCapacity(int capacity) {
+		if (capacity > counts.length) {
+			counts = Arrays.copyOf(counts, Math.max(capacity, counts.length * 2));
+		}
+	}
+}
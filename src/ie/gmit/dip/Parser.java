@@ -1,78 +1,241 @@
 package ie.gmit.dip;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 /**
 * Parser used to parse input into words and use those words to fill out frequency table
 */
 public class Parser {
+	// Magic bytes at the start of a file, used to detect compressed input
+	private static final int[] GZIP_MAGIC = { 0x1f, 0x8b };
+	// Zip archives start with a local file header, or an end of central directory record when empty,
+	// or a split archive marker when spanned
+	private static final int[][] ZIP_MAGICS = { { 'P', 'K', 0x03, 0x04 }, { 'P', 'K', 0x05, 0x06 },
+			{ 'P', 'K', 0x07, 0x08 } };
+	private static final int[] ZSTD_MAGIC = { 0x28, 0xb5, 0x2f, 0xfd };
 
 	/**
-	* Parses the input file, separates it into words, and adds those words to the frequency table
+	* Parses the input file, separates it into words, and adds those words to the frequency table.
+	* Gzip and zip input is detected by its magic bytes and decompressed while it is parsed
 	*
 	* @param file The filepath of the input file
 	* @param frequencyTable The frequency table to add words to
     */
-	// Running time: O(n)/quadratic - running time grows linearly with each
-	// character in the input text file due to the while loop, and nested within that while loop
-	// is another operation that grows linearly  with each word in the ignored words list that 
-	// must be checked against. This results in O(n * n) = O(n)
-	public static void parseFile(String file, FrequencyTable frequencyTable) throws Exception {
+	// Running time: O(n)/linear - running time grows linearly with each
+	// character in the input text file due to the while loop. Checking each word against the
+	// ignored words set is constant time, so it does not change the running time
+	public static void parseFile(String file, AbstractFrequencyTable frequencyTable) throws Exception {
 
-		BufferedReader reader; 
+		BufferedInputStream input; 
 
-		// Read text from input file
+		// Read bytes from input file
 		try {
-			reader = new BufferedReader(new InputStreamReader(new FileInputStream(file)));
+			input = new BufferedInputStream(new FileInputStream(file));
 		} catch (FileNotFoundException e) {
 			throw new FileNotFoundException("File not found. Error: " + e);
 		}
 
+		BufferedReader reader = null;
+		boolean isZip;
+
 		try {
-			StringBuffer buffer = new StringBuffer(); // Used to store each character until a complete word is formed
-			char character;
-			int characterInt; // Used to store integer returned from current character by read method
-			String word;
+			isZip = false;
+			for (int[] magic : ZIP_MAGICS) {
+				isZip = isZip || hasMagicBytes(input, magic);
+			}
 
-			// Read a single character until the end of the stream/file has been reached
-			while ((characterInt = reader.read()) != -1) {
+			// Any other compressed input is decompressed as it is streamed into the reader
+			if (!isZip) {
+				reader = new BufferedReader(new InputStreamReader(decompress(input)));
+				parseText(reader, frequencyTable);
+			}
+		} catch (IOException e) {
+			throw new IOException("Error reading from file. Error: " + e);
+		} finally {
+			// Closing the reader also closes the decompressing stream, otherwise only the file is open
+			if (reader != null) {
+				reader.close();
+			} else {
+				input.close();
+			}
+		}
 
-				character = (char) characterInt; 
+		// Zip archives are read through ZipFile instead, so that their entries can be parsed in parallel
+		if (isZip) {
+			try {
+				parseZip(file, frequencyTable);
+			} catch (IOException e) {
+				throw new IOException("Error reading from file. Error: " + e);
+			}
+		}
 
-				if (character >= 'A' && character <= 'Z' || character >= 'a' && character <= 'z' || character == '\'') {
+		frequencyTable.sort(); // Sort the table for outputting files
+	}
 
-					// If the character is an apostrophe, ignore it and continue to the next character
-					if (character == '\'') {
-						continue;
-					}
+	/**
+	* Parses each entry of the input zip archive in parallel, and adds the words of all
+	* the entries to the frequency table
+	*
+	* @param file The filepath of the input zip archive
+	* @param frequencyTable The frequency table to add words to
+    */
+	// Running time: O(n)/linear - each entry is parsed with parseText(), which is linear.
+	// Merging the per-entry tables is linear, so it does not change the overall running time
+	private static void parseZip(String file, AbstractFrequencyTable frequencyTable) throws Exception {
+		ZipFile zipFile = new ZipFile(file);
 
-					buffer.append(character); // Add each character to the buffer to form a complete word
-				} else { // When reaching another character, like space, newline, comma, period, etc...
+		// One thread per available processor is used, so large archives don't create a thread per entry
+		ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
 
-					// Create a word string from the characters in the buffer + normalize it by making 
-					// all characters lowercase to remove duplicates from the frequency table
-					word = buffer.toString().toLowerCase();
+		// Each entry gets its own frequency table, since frequency tables are not safe to share between threads.
+		// FrequencyTable keeps each entry's words in the order they were read, which keeps the merge deterministic
+		List<Future<FrequencyTable>> results = new ArrayList<>();
 
-					buffer.setLength(0); // Clear the buffer of previous data, which will be garbage collected
+		try {
+			Enumeration<? extends ZipEntry> entries = zipFile.entries();
 
-					// Check if the word is to be ignored, and if not, increase its frequency
-					if (word.length() > 0 && IgnoredWords.checkIfIgnored(word) == false) {
-						frequencyTable.incrementFrequency(word);
+			while (entries.hasMoreElements()) {
+				ZipEntry entry = entries.nextElement();
+
+				if (entry.isDirectory()) {
+					continue;
+				}
+
+				results.add(executor.submit(new Callable<FrequencyTable>() {
+					@Override
+					public FrequencyTable call() throws Exception {
+						FrequencyTable entryTable = new FrequencyTable();
+						BufferedInputStream entryInput = new BufferedInputStream(zipFile.getInputStream(entry));
+						BufferedReader reader = new BufferedReader(new InputStreamReader(decompress(entryInput)));
+
+						try {
+							parseText(reader, entryTable);
+						} finally {
+							reader.close();
+						}
+						return entryTable;
 					}
+				}));
+			}
+
+			// Merge the results in entry order, so the same archive always produces the same table
+			for (Future<FrequencyTable> result : results) {
+				result.get().forEachWord(frequencyTable::addFrequency);
+			}
+		} catch (ExecutionException e) {
+			throw new IOException("Error reading from zip archive. Error: " + e.getCause());
+		} finally {
+			executor.shutdownNow();
+			zipFile.close();
+		}
+	}
+
+	/**
+	* Wraps the passed-in stream in a decompressing stream if it starts with the magic bytes
+	* of a supported compression format, otherwise returns it unchanged
+	*
+	* @param input The stream to be checked
+	* @return InputStream The stream the text can be read from
+    */
+	// Running time: O(1)/constant - only the first few bytes of the stream are checked
+	private static InputStream decompress(BufferedInputStream input) throws IOException {
+		if (hasMagicBytes(input, GZIP_MAGIC)) {
+			return new GZIPInputStream(input);
+		}
+
+		// Zstandard has no decoder in the JDK, so give user feedback instead of parsing compressed bytes as words
+		if (hasMagicBytes(input, ZSTD_MAGIC)) {
+			input.close();
+			throw new IOException("Zstandard compressed input is not supported. Please decompress the file first.");
+		}
+
+		return input;
+	}
+
+	/**
+	* Checks if the passed-in stream starts with the passed-in magic bytes, without consuming them
+	*
+	* @param input The stream to be checked
+	* @param magic The magic bytes identifying a file format
+	* @return boolean Indicates whether the stream starts with the magic bytes or not
+    */
+	// Running time: O(1)/constant - the number of magic bytes is fixed
+	private static boolean hasMagicBytes(BufferedInputStream input, int[] magic) throws IOException {
+		input.mark(magic.length);
+
+		try {
+			for (int b : magic) {
+				if (input.read() != b) {
+					return false;
 				}
+			}
+			return true;
+		} finally {
+			input.reset(); // Rewind the stream so the magic bytes are still read by the tokenizer
+		}
+	}
 
+	/**
+	* Separates the text from the passed-in reader into words, and adds those words to the frequency table
+	*
+	* @param reader The reader the text is read from
+	* @param frequencyTable The frequency table to add words to
+    */
+	// Running time: O(n)/linear - running time grows linearly with each
+	// character in the input text due to the while loop. Checking each word against the
+	// ignored words set is constant time, so it does not change the running time
+	private static void parseText(BufferedReader reader, AbstractFrequencyTable frequencyTable) throws IOException {
+		StringBuffer buffer = new StringBuffer(); // Used to store each character until a complete word is formed
+		char character;
+		int characterInt; // Used to store integer returned from current character by read method
+		String word;
+
+		// Read a single character until the end of the stream/file has been reached
+		while ((characterInt = reader.read()) != -1) {
+
+			character = (char) characterInt; 
+
+			if (character >= 'A' && character <= 'Z' || character >= 'a' && character <= 'z' || character == '\'') {
+
+				// If the character is an apostrophe, ignore it and continue to the next character
+				if (character == '\'') {
+					continue;
+				}
+
+				buffer.append(character); // Add each character to the buffer to form a complete word
+			} else { // When reaching another character, like space, newline, comma, period, etc...
+
+				// Create a word string from the characters in the buffer + normalize it by making 
+				// all characters lowercase to remove duplicates from the frequency table
+				word = buffer.toString().toLowerCase();
+
+				buffer.setLength(0); // Clear the buffer of previous data, which will be garbage collected
+
+				// Check if the word is to be ignored, and if not, increase its frequency
+				if (word.length() > 0 && IgnoredWords.checkIfIgnored(word) == false) {
+					frequencyTable.incrementFrequency(word);
+				}
 			}
-			frequencyTable.sort(); // Sort the table for outputting files
-		} catch (IOException e) {
-			reader.close();
-			throw new IOException("Error reading from file. Error: " + e);
+
 		}
-		reader.close();
 	}
 
 	/**
@@ -81,11 +244,10 @@ public class Parser {
 	* @param url The url of the webpage to be parsed
 	* @param frequencyTable The frequency table to add words to
     */
-	// Running time: O(n)/quadratic - running time grows linearly with each
-	// character in the input URL stream due to the while loop, and nested within that while loop
-	// is another operation that grows linearly  with each word in the ignored words list that 
-	// must be checked against. This results in O(n * n) = O(n)
-	public static void parseURL(URL url, FrequencyTable frequencyTable) throws Exception {
+	// Running time: O(n)/linear - running time grows linearly with each
+	// character in the input URL stream due to the while loop. Checking each word against the
+	// ignored words set is constant time, so it does not change the running time
+	public static void parseURL(URL url, AbstractFrequencyTable frequencyTable) throws Exception {
 		BufferedReader reader;
 
 		// Read text from input URL
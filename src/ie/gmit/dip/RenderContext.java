@@ -0,0 +1,359 @@
+package ie.gmit.dip;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
+/**
+* RenderContext used to render word-clouds of a fixed size into a stream or buffer, reusing
+* pooled image buffers between renders instead of allocating a new image every time
+*/
+public class RenderContext {
+	// Constant and not intended to be changed or mutated by code
+	private static final int DEFAULT_COMPRESSION_LEVEL = 4; // Same level ImageIO uses by default
+	private static final int MAX_POOLED_IMAGES = Runtime.getRuntime().availableProcessors();
+
+	// Images not currently in use, keyed by their size, shared by every RenderContext
+	private static Map<String, Queue<BufferedImage>> imagePool = new ConcurrentHashMap<>();
+	// Number of images in the pool across every size, kept at or below MAX_POOLED_IMAGES
+	private static AtomicInteger pooledImages = new AtomicInteger();
+
+	private int width;
+	private int height;
+	private int compressionLevel;
+
+	/**
+	* Constructor to initialize a new RenderContext instance
+	*
+	* @param width The width of the rendered images in pixels
+	* @param height The height of the rendered images in pixels
+    */
+	public RenderContext(int width, int height) {
+		this.width = width;
+		this.height = height;
+		this.compressionLevel = DEFAULT_COMPRESSION_LEVEL;
+	}
+
+	/**
+	* Getter for width
+	*
+	* @return int The width of the rendered images in pixels
+    */
+	// Running time: O(1)/constant - takes no input
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	* Getter for height
+	*
+	* @return int The height of the rendered images in pixels
+    */
+	// Running time: O(1)/constant - takes no input
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	* Getter for compressionLevel
+	*
+	* @return int The PNG compression level, from 0 (fastest) to 9 (smallest)
+    */
+	// Running time: O(1)/constant - takes no input
+	public int getCompressionLevel() {
+		return compressionLevel;
+	}
+
+	/**
+	* Setter for compressionLevel. Latency-sensitive callers can use 0 or 1 to spend
+	* less time encoding, at the cost of larger output
+	*
+	* @param level The PNG compression level, from 0 (fastest) to 9 (smallest)
+    */
+	// Running time: O(1)/constant - does not vary depending on size of input
+	public void setCompressionLevel(int level) {
+		if (level < 0 || level > 9) {
+			throw new IllegalArgumentException("The compression level must be between 0 and 9.");
+		}
+		compressionLevel = level;
+	}
+
+	/**
+	* Renders a word-cloud from the words of the frequency table and writes it as a PNG to the output stream.
+	* The output stream is not closed
+	*
+	* @param output The stream the PNG image is written to
+	* @param wordCount The number of words to be displayed in the word-cloud
+	* @param frequencyTable The frequency table used to generate the word-cloud
+    */
+	// Running time: O(n)/linear - uses the seeded render() which is linear time
+	public void render(OutputStream output, int wordCount, AbstractFrequencyTable frequencyTable) throws Exception {
+		render(output, wordCount, frequencyTable, new SplittableRandom().nextLong()); // Use a random seed
+	}
+
+	/**
+	* Renders a word-cloud from the words of the frequency table and writes it as a PNG to the output stream.
+	* The same seed and frequency table always produce byte-identical output. The output stream is not closed
+	*
+	* @param output The stream the PNG image is written to
+	* @param wordCount The number of words to be displayed in the word-cloud
+	* @param frequencyTable The frequency table used to generate the word-cloud
+	* @param seed The seed used to choose the font-style and color of each word
+    */
+	// Running time: O(n)/linear - uses WordCloud.drawWordCloud() which is linear time,
+	// encoding time grows with the image size, which is fixed for the context
+	public void render(OutputStream output, int wordCount, AbstractFrequencyTable frequencyTable, long seed)
+			throws Exception {
+		BufferedImage image = acquireImage();
+
+		try {
+			// Each render gets its own random number generator, so concurrent renders share no mutable state
+			Graphics2D graphics = image.createGraphics();
+			WordCloud.drawWordCloud(graphics, width, wordCount, frequencyTable, new SplittableRandom(seed));
+			graphics.dispose(); // Dispose of graphics object to free up memory
+
+			write(image, output);
+		} finally {
+			releaseImage(image); // Return the image to the pool even if encoding failed
+		}
+	}
+
+	/**
+	* Renders a word-cloud from the words of the frequency table and returns it as PNG bytes
+	*
+	* @param wordCount The number of words to be displayed in the word-cloud
+	* @param frequencyTable The frequency table used to generate the word-cloud
+	* @return ByteBuffer The buffer containing the encoded PNG image
+    */
+	// Running time: O(n)/linear - uses render() which is linear time
+	public ByteBuffer render(int wordCount, AbstractFrequencyTable frequencyTable) throws Exception {
+		BufferOutputStream output = new BufferOutputStream();
+		render(output, wordCount, frequencyTable);
+		return output.toByteBuffer();
+	}
+
+	/**
+	* Renders a word-cloud from the words of the frequency table and returns it as PNG bytes.
+	* The same seed and frequency table always produce byte-identical output
+	*
+	* @param wordCount The number of words to be displayed in the word-cloud
+	* @param frequencyTable The frequency table used to generate the word-cloud
+	* @param seed The seed used to choose the font-style and color of each word
+	* @return ByteBuffer The buffer containing the encoded PNG image
+    */
+	// Running time: O(n)/linear - uses the seeded render() which is linear time
+	public ByteBuffer render(int wordCount, AbstractFrequencyTable frequencyTable, long seed) throws Exception {
+		BufferOutputStream output = new BufferOutputStream();
+		render(output, wordCount, frequencyTable, seed);
+		return output.toByteBuffer();
+	}
+
+	/**
+	* Renders a word-cloud from the words of the frequency table and writes it as PNG bytes into the
+	* passed-in buffer, starting at its position. The buffer's position is moved past the written bytes.
+	* The same seed and frequency table always produce byte-identical output
+	*
+	* @param buffer The buffer the PNG image is written into, such as a reused direct buffer
+	* @param wordCount The number of words to be displayed in the word-cloud
+	* @param frequencyTable The frequency table used to generate the word-cloud
+	* @param seed The seed used to choose the font-style and color of each word
+    */
+	// Running time: O(n)/linear - uses the seeded render() which is linear time
+	public void render(ByteBuffer buffer, int wordCount, AbstractFrequencyTable frequencyTable, long seed)
+			throws Exception {
+		// Adapts the buffer to an OutputStream, so the encoder writes into it with no intermediate copy
+		OutputStream output = new OutputStream() {
+			@Override
+			public void write(int b) throws IOException {
+				if (!buffer.hasRemaining()) {
+					throw new IOException("The buffer is too small for the rendered image.");
+				}
+				buffer.put((byte) b);
+			}
+
+			@Override
+			public void write(byte[] bytes, int offset, int length) throws IOException {
+				if (buffer.remaining() < length) {
+					throw new IOException("The buffer is too small for the rendered image.");
+				}
+				buffer.put(bytes, offset, length);
+			}
+		};
+
+		render(output, wordCount, frequencyTable, seed);
+	}
+
+	/**
+	* Removes every image from the pool, so their memory can be garbage collected.
+	* Images are pooled again by later renders
+    */
+	// Running time: O(n)/linear - time taken grows with the number of pooled images
+	public static void clearPool() {
+		for (Queue<BufferedImage> pool : imagePool.values()) {
+			while (pool.poll() != null) {
+				pooledImages.decrementAndGet();
+			}
+		}
+	}
+
+	/**
+	* Compares two rendered PNG images pixel by pixel, such as a render against a previously saved
+	* reference render, and returns how many pixels differ
+	*
+	* @param expected The buffer containing the reference PNG image
+	* @param actual The buffer containing the PNG image to be checked
+	* @return long The number of differing pixels, or every pixel of the larger image if the sizes differ
+    */
+	// Running time: O(n)/linear - time taken grows with the number of pixels in the images
+	public static long countPixelDifferences(ByteBuffer expected, ByteBuffer actual) throws IOException {
+		BufferedImage expectedImage = decode(expected);
+		BufferedImage actualImage = decode(actual);
+
+		// Images of different sizes can't be compared pixel by pixel, so every pixel counts as different
+		if (expectedImage.getWidth() != actualImage.getWidth() || expectedImage.getHeight() != actualImage.getHeight()) {
+			return Math.max((long) expectedImage.getWidth() * expectedImage.getHeight(),
+					(long) actualImage.getWidth() * actualImage.getHeight());
+		}
+
+		long differences = 0;
+		for (int y = 0; y < expectedImage.getHeight(); y++) {
+			for (int x = 0; x < expectedImage.getWidth(); x++) {
+				if (expectedImage.getRGB(x, y) != actualImage.getRGB(x, y)) {
+					differences++;
+				}
+			}
+		}
+		return differences;
+	}
+
+	/**
+	* Decodes the PNG image in the passed-in buffer, without moving the buffer's position
+	*
+	* @param buffer The buffer containing the PNG image
+	* @return BufferedImage The decoded image
+    */
+	// Running time: O(n)/linear - time taken grows with the number of pixels in the image
+	private static BufferedImage decode(ByteBuffer buffer) throws IOException {
+		ByteBuffer copy = buffer.duplicate();
+		byte[] bytes = new byte[copy.remaining()];
+		copy.get(bytes);
+
+		BufferedImage image = ImageIO.read(new ByteArrayInputStream(bytes));
+		if (image == null) {
+			throw new IOException("The buffer does not contain a readable image.");
+		}
+		return image;
+	}
+
+	/**
+	* Encodes the image as a PNG with the context's compression level and writes it to the output stream
+	*
+	* @param image The image to be encoded
+	* @param output The stream the PNG image is written to
+    */
+	// Running time: O(n)/linear - time taken grows with the number of pixels in the image
+	private void write(BufferedImage image, OutputStream output) throws Exception {
+		ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+		ImageWriteParam param = writer.getDefaultWriteParam();
+
+		// The PNG writer maps a quality of 1.0 to level 0 and a quality of 0.0 to level 9
+		param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+		param.setCompressionQuality((9 - compressionLevel) / 9f);
+
+		// Cache in memory rather than ImageIO's default temporary file, which is slower and needs a writable tmpdir
+		ImageOutputStream imageOutput = new MemoryCacheImageOutputStream(output);
+
+		try {
+			writer.setOutput(imageOutput);
+			writer.write(null, new IIOImage(image, null, null), param);
+		} finally {
+			imageOutput.close(); // Flushes to the output stream, but leaves the output stream open
+			writer.dispose();
+		}
+	}
+
+	/**
+	* Takes an image of the context's size from the pool, or creates one if none are free.
+	* Pooled images are cleared to transparent before being returned
+	*
+	* @return BufferedImage The image to be rendered into
+    */
+	// Running time: O(n)/linear - clearing the image grows with the number of pixels in it
+	private BufferedImage acquireImage() {
+		Queue<BufferedImage> pool = imagePool.computeIfAbsent(poolKey(), key -> new ConcurrentLinkedQueue<>());
+		BufferedImage image = pool.poll();
+
+		if (image == null) {
+			return new BufferedImage(width, height, BufferedImage.TYPE_4BYTE_ABGR);
+		}
+		pooledImages.decrementAndGet();
+
+		// Clear the words of the previous render, so the image matches a newly created one
+		Graphics2D graphics = image.createGraphics();
+		graphics.setBackground(new Color(0, 0, 0, 0));
+		graphics.clearRect(0, 0, width, height);
+		graphics.dispose();
+
+		return image;
+	}
+
+	/**
+	* Returns an image to the pool so it can be reused by a later render
+	*
+	* @param image The image that is no longer in use
+    */
+	// Running time: O(1)/constant - uses ConcurrentLinkedQueue.offer() which is constant time
+	private void releaseImage(BufferedImage image) {
+		Queue<BufferedImage> pool = imagePool.get(poolKey());
+
+		// Only keep as many images as can be rendered at once, across every size, the rest are garbage collected
+		if (pooledImages.incrementAndGet() <= MAX_POOLED_IMAGES) {
+			pool.offer(image);
+		} else {
+			pooledImages.decrementAndGet();
+		}
+	}
+
+	/**
+	* Returns the key the context's images are pooled under
+	*
+	* @return String The key made up of the width and height
+    */
+	// Running time: O(1)/constant - does not vary depending on size of input
+	private String poolKey() {
+		return width + "x" + height;
+	}
+
+	/**
+	* ByteArrayOutputStream that can wrap its bytes in a ByteBuffer without copying them
+	*/
+	private static class BufferOutputStream extends ByteArrayOutputStream {
+		/**
+		* Wraps the bytes written so far in a ByteBuffer
+		*
+		* @return ByteBuffer The buffer sharing the stream's byte array
+	    */
+		// Running time: O(1)/constant - the byte array is wrapped, not copied
+		ByteBuffer toByteBuffer() {
+			return ByteBuffer.wrap(buf, 0, count);
+		}
+	}
+}
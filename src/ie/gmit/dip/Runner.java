@@ -9,6 +9,8 @@ import java.util.Scanner;
 public class Runner {
 	private static boolean isRunning = true;  
 	private static int wordCount = 100; 
+	// Set by the output threads when a file fails to generate, so one-shot runs can report it
+	private static volatile boolean outputFailed = false;
 
 	/**
 	* Getter for isRunning
@@ -55,10 +57,11 @@ public class Runner {
 	*
 	* @param outputFile The name used for the output file
 	* @param frequencyTable The frequency table the files are generated from
+	* @return Thread[] The started threads, so callers can wait for the files to be generated
 	*/
 	// Running time: O(n)/linear - since the methods invoked in the threads are both
 	// linear time complexity
-	private static void generateOutput(String outputFile, FrequencyTable frequencyTable) {
+	private static Thread[] generateOutput(String outputFile, FrequencyTable frequencyTable) {
 		// Separate threads are used to generate each output file to improve performance
 
 		// Thread to generate the frequency table text file containing all results
@@ -69,6 +72,7 @@ public class Runner {
 					frequencyTable.output(outputFile);
 				} catch (Exception e) {
 					System.out.println("Error generating output frequency table. Error: " + e);
+					outputFailed = true;
 				}
 			}
 		});
@@ -82,15 +86,21 @@ public class Runner {
 					WordCloud.outputWordCloud(outputFile, wordCount, frequencyTable);
 				} catch (Exception e) {
 					System.out.println("Error generating word cloud image. Error: " + e);
+					outputFailed = true;
 				}
 			}
 		});
 		wordCloudThread.start();
+
+		return new Thread[] { textFileThread, wordCloudThread };
 	}
 
 	
 	/**
-	* Runs the program and prompts user for input
+	* Runs the program and prompts user for input. If an input file and output file name are passed in
+	* as arguments, the output files are generated from them once and the menu is not shown
+	*
+	* @param args Optionally, the input file followed by the name to give the output file
 	*/
 	// Running time: varies depending on user input choice.
 	// If user enters 1 or 2 running time is O(n log n) since the operation to sort the frequency 
@@ -98,6 +108,35 @@ public class Runner {
 	// If the user enters 3 or 4 running time is constant since there is no input.
 	public static void main(String[] args) throws Exception {
 
+		// Any other number of arguments is a mistake, and falling through to the menu would block a script on input
+		if (args.length != 0 && args.length != 2) {
+			System.out.println("Usage: java -jar wcloud.jar [<input file> <output file name>]");
+			System.out.println("Run with no arguments to use the menu.");
+			System.exit(1);
+		}
+
+		IgnoredWords.createIgnoredWordsArray();  // Create list of words to be ignored, once for the whole run
+
+		// One-shot mode for short-lived command-line runs, such as from scripts
+		if (args.length == 2) {
+			if (args[1].contains(".")) {
+				throw new Exception("Invalid input. The output file name cannot include a period/full stop.");
+			}
+
+			FrequencyTable frequencyTable = new FrequencyTable();
+			Parser.parseFile(args[0], frequencyTable); // Parse the file
+
+			// Wait for the output files, so a script sees a non-zero exit status if either failed
+			for (Thread thread : generateOutput(args[1], frequencyTable)) {
+				thread.join();
+			}
+
+			if (outputFailed) {
+				System.exit(1);
+			}
+			return;
+		}
+
 		do { // Loop that keeps menu running while isRunning is true
 			System.out.println("***************************************************");
 			System.out.println("*                                                 *");
@@ -111,7 +150,6 @@ public class Runner {
 			System.out.println("(4) Quit"); 
 			System.out.println("\nPlease choose an option by entering [1-4]>");
 
-			IgnoredWords.createIgnoredWordsArray();  // Create list of words to be ignored
 			FrequencyTable frequencyTable = new FrequencyTable();  
 
 			Scanner scanner = new Scanner(System.in);
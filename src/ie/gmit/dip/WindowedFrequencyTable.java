@@ -0,0 +1,273 @@
+package ie.gmit.dip;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+/**
+* WindowedFrequencyTable used to store the frequency of words seen within a sliding time window,
+* such as the last N minutes of a log. The window is split into a ring of buckets, and when a
+* bucket expires only that bucket's words are removed, rather than recounting the whole window.
+* Buckets are map-backed FrequencyTables, so expiring one only visits that bucket's own words.
+* Reads return the window sorted from highest to lowest frequency.
+*
+* The window only moves forward to the times words are added at, or to the time passed to advance().
+* Reads do not move it, so a table should be given either log timestamps or the current time, not both
+*/
+public class WindowedFrequencyTable extends AbstractFrequencyTable {
+	private FrequencyTable[] buckets; // Ring of per-bucket frequency tables, oldest bucket follows the current one
+	private FrequencyTable window; // Running total of every bucket in the ring
+	private long bucketMillis; // Length of time covered by each bucket
+	private int currentBucket; // Index of the bucket new words are added to
+	private long currentBucketStart; // Time in milliseconds the current bucket started at
+	private boolean hasStarted; // Whether the ring has been lined up with the time of the first word yet
+
+	/**
+	* Constructor to initialize a new WindowedFrequencyTable instance
+	*
+	* @param windowMillis The length of the time window in milliseconds
+	* @param bucketCount The number of buckets the window is split into. More buckets make the
+	* window slide more smoothly, fewer buckets use less memory
+    */
+	public WindowedFrequencyTable(long windowMillis, int bucketCount) {
+		if (bucketCount < 1 || windowMillis < bucketCount) {
+			throw new IllegalArgumentException("The window must have at least 1 bucket, and each bucket must cover at least 1 millisecond.");
+		}
+
+		this.buckets = new FrequencyTable[bucketCount];
+		for (int i = 0; i < bucketCount; i++) {
+			buckets[i] = new FrequencyTable();
+		}
+
+		this.window = new FrequencyTable();
+		this.bucketMillis = windowMillis / bucketCount;
+		this.currentBucket = 0;
+		this.currentBucketStart = 0;
+		this.hasStarted = false; // The ring starts at the time of the first word, so old logs can be replayed
+	}
+
+	/**
+	* Getter for the table containing the key-value pairs of the current window
+	*
+	* @return Map<String, Integer> The Map containing the words (key) and their frequency (value)
+    */
+	// Running time: O(n log n) - the window is sorted first if it has changed, see keepSorted()
+	@Override
+	public Map<String, Integer> getTable() {
+		keepSorted();
+		return window.getTable();
+	}
+
+	/**
+	* Getter for isSorted
+	*
+	* @return boolean The boolean showing whether the window is sorted or not
+    */
+	// Running time: O(1)/constant - takes no input
+	@Override
+	public boolean getIsSorted() {
+		return window.getIsSorted();
+	}
+
+	/**
+	* Setter for isSorted
+	*
+	* @param state The state of the window in terms of whether its sorted or not
+    */
+	// Running time: O(1)/constant - does not vary depending on size of input
+	@Override
+	public void setIsSorted(boolean state) {
+		window.setIsSorted(state);
+	}
+
+	/**
+	* Returns the frequency of the passed-in word within the current window
+	*
+	* @param word The word whose frequency is to be returned
+	* @return int The frequency of the passed-in word
+    */
+	// Running time: O(1)/constant - uses FrequencyTable.getFrequency() which is constant time
+	@Override
+	public int getFrequency(String word) {
+		return window.getFrequency(word);
+	}
+
+	/**
+	* Increments the frequency of the passed-in word at the current time
+	*
+	* @param word The word whose frequency is to be incremented
+    */
+	// Running time: O(n)/linear - see addFrequency(String, int, long)
+	@Override
+	public void incrementFrequency(String word) {
+		addFrequency(word, 1, System.currentTimeMillis());
+	}
+
+	/**
+	* Increments the frequency of the passed-in word at the passed-in time, such as the
+	* timestamp of a log line
+	*
+	* @param word The word whose frequency is to be incremented
+	* @param time The time in milliseconds the word was seen at
+    */
+	// Running time: O(n)/linear - see addFrequency(String, int, long)
+	public void incrementFrequency(String word, long time) {
+		addFrequency(word, 1, time);
+	}
+
+	/**
+	* Adds the passed-in amount to the frequency of the passed-in word at the current time
+	*
+	* @param word The word whose frequency is to be increased
+	* @param amount The amount to add to the frequency of the word
+    */
+	// Running time: O(n)/linear - see addFrequency(String, int, long)
+	@Override
+	public void addFrequency(String word, int amount) {
+		addFrequency(word, amount, System.currentTimeMillis());
+	}
+
+	/**
+	* Adds the passed-in amount to the frequency of the passed-in word at the passed-in time.
+	* A time after the current bucket moves the window forward to it. A time before the current bucket
+	* is counted in the bucket covering it, or dropped if it is older than the start of the window
+	*
+	* @param word The word whose frequency is to be increased
+	* @param amount The amount to add to the frequency of the word
+	* @param time The time in milliseconds the word was seen at
+    */
+	// Running time: O(n)/linear - expired buckets are removed first, see advance().
+	// Otherwise constant, since FrequencyTable.addFrequency() is constant time
+	public void addFrequency(String word, int amount, long time) {
+		advance(time);
+
+		int bucket = findBucket(time);
+		if (bucket < 0) {
+			return; // Too old to be in the window
+		}
+
+		buckets[bucket].addFrequency(word, amount);
+		window.addFrequency(word, amount); // Also marks the window unsorted
+	}
+
+	/**
+	* Finds the bucket covering the passed-in time, which must not be after the current bucket
+	*
+	* @param time The time in milliseconds to find the bucket of
+	* @return int The index of the bucket, or -1 if the time is older than the start of the window
+    */
+	// Running time: O(1)/constant - the bucket is calculated, not searched for
+	private int findBucket(long time) {
+		if (time >= currentBucketStart) {
+			return currentBucket;
+		}
+
+		// Number of buckets back from the current one, 1 being the bucket just before it
+		long bucketsBack = (currentBucketStart - time - 1) / bucketMillis + 1;
+		if (bucketsBack >= buckets.length) {
+			return -1;
+		}
+
+		return (int) ((currentBucket - bucketsBack + buckets.length) % buckets.length);
+	}
+
+	/**
+	* Returns up to the passed-in number of the most frequent words of the current window
+	*
+	* @param count The maximum number of words to be returned
+	* @return List<String> The most frequent words of the window, from highest to lowest frequency
+    */
+	// Running time: O(n log n) - the window is sorted first if it has changed, see keepSorted()
+	@Override
+	public List<String> getTopWords(int count) {
+		keepSorted();
+		return window.getTopWords(count);
+	}
+
+	/**
+	* Passes every word of the current window and its frequency to the action, from highest to lowest frequency
+	*
+	* @param action The action to be performed for each word and its frequency
+    */
+	// Running time: O(n log n) - the window is sorted first if it has changed, see keepSorted()
+	@Override
+	public void forEachWord(ObjIntConsumer<String> action) {
+		keepSorted();
+		window.forEachWord(action);
+	}
+
+	/**
+	* Sorts the window if words were added or expired since it was last sorted, so that readers
+	* always get the most frequent words first
+    */
+	// Running time: O(n log n) when the window has changed - uses FrequencyTable.sort() which is O(n*log(n)).
+	// Otherwise O(1)/constant
+	private void keepSorted() {
+		if (window.getIsSorted() || window.getTable().isEmpty()) {
+			return; // Already in order, or nothing to sort
+		}
+
+		try {
+			window.sort();
+		} catch (Exception e) {
+			// FrequencyTable.sort() only throws for an empty table, which is checked above
+			throw new IllegalStateException("Error sorting the window. Error: " + e);
+		}
+	}
+
+	/**
+	* Moves the window forward to the passed-in time, removing the words of every bucket that has expired.
+	* Times before the current bucket leave the window where it is. Callers using the current time can
+	* call this when no words are arriving, so that a quiet window still expires
+	*
+	* @param time The time in milliseconds the window is moved to
+    */
+	// Running time: O(n)/linear - grows with the number of words in the expired buckets only,
+	// the words of the buckets still in the window are not touched
+	public void advance(long time) {
+		// Line the ring up with the first time seen, instead of the time the table was created
+		if (!hasStarted) {
+			currentBucketStart = time;
+			hasStarted = true;
+			return;
+		}
+
+		if (time < currentBucketStart + bucketMillis) {
+			return; // Still inside the current bucket
+		}
+
+		long elapsedBuckets = (time - currentBucketStart) / bucketMillis;
+
+		// Once every bucket has expired there is nothing left to remove, so stop after a full lap of the ring
+		for (long i = 0; i < Math.min(elapsedBuckets, buckets.length); i++) {
+			// The bucket after the current one is the oldest, so it is the next to expire and be reused
+			currentBucket = (currentBucket + 1) % buckets.length;
+			window.subtract(buckets[currentBucket]);
+			buckets[currentBucket].clear();
+		}
+
+		currentBucketStart += elapsedBuckets * bucketMillis;
+	}
+
+	/**
+	* Clears the window and every bucket of their key-value mappings
+    */
+	// Running time: O(n)/linear - takes longer depending on how many key-value pairs are to be removed
+	@Override
+	public void clear() {
+		for (FrequencyTable bucket : buckets) {
+			bucket.clear();
+		}
+		window.clear();
+		hasStarted = false; // Start again from the time of the next word
+	}
+
+	/**
+	* Sort the key-value pairs of the current window from highest to lowest
+    */
+	// Running time: O(n log n) - uses FrequencyTable.sort() which is O(n*log(n))
+	@Override
+	public void sort() throws Exception {
+		window.sort();
+	}
+}
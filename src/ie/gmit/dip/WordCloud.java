@@ -3,25 +3,25 @@ package ie.gmit.dip;
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics;
-import java.awt.image.BufferedImage;
-import java.io.File;
-import java.util.ArrayList;
-import java.util.Random;
-
-import javax.imageio.ImageIO;
+import java.io.FileOutputStream;
+import java.util.SplittableRandom;
 
 /**
 * WordCloud used to create a word-cloud image file with the words from the frequency table
 */
 public class WordCloud {
-	private static Random random = new Random();
+	// Constant and not intended to be changed or mutated by code
+	private static final int WIDTH = 1800;
+	private static final int HEIGHT = 1200;
+
+	// Used to render output image files, reusing its image buffer between calls
+	private static RenderContext defaultContext = new RenderContext(WIDTH, HEIGHT);
 
 	// Used to randomize the font-style and color of the output text
 	private static Font font1 = new Font(Font.SANS_SERIF, Font.BOLD, 15);
 	private static Font font2 = new Font(Font.SERIF, Font.ITALIC, 15);
 	private static Font font3 = new Font(Font.MONOSPACED, Font.PLAIN, 15);
 	private static Font[] fonts = { font1, font2, font3 };
-	private static Font currentFont = font1;
 
 	private static Color[] colors = { Color.black, Color.blue, Color.cyan, Color.darkGray, Color.green, Color.magenta,
 			Color.orange, Color.pink, Color.red };
@@ -29,11 +29,12 @@ public class WordCloud {
 	/**
 	* Selects a random index in the passed-in array, and returns the element at that index
 	*
+	* @param random The random number generator of the current render
 	* @param arr The array the random index will be selected from
 	* @return T The element at the randomly selected index 
     */
-	// Running time: O(1)/constant - uses Random.nextInt() which is constant time
-	private static <T> T selectRandomIndex(T... arr) {
+	// Running time: O(1)/constant - uses SplittableRandom.nextInt() which is constant time
+	private static <T> T selectRandomIndex(SplittableRandom random, T... arr) {
 		// Return the element from a random index between 0 and the last index
 		return arr[random.nextInt(arr.length)];
 	}
@@ -45,13 +46,50 @@ public class WordCloud {
 	* @param wordCount The number of words to be displayed in the word-cloud
 	* @param frequencyTable The frequency table used to generate the word-cloud
     */
-	// Running time: O(n)/linear - has two loops, but the second is not nested inside 
-	// the first (which would be quadratic). 
-	// This results in O(n + n) = O(2n) which simplifies to O(n)
-	public static void outputWordCloud(String fileName, int wordCount, FrequencyTable frequencyTable) throws Exception {
-		int height = 1200;
-		int width = 1800;
+	// Running time: O(n)/linear - uses RenderContext.render() which is linear time
+	public static void outputWordCloud(String fileName, int wordCount, AbstractFrequencyTable frequencyTable) throws Exception {
+		FileOutputStream output = new FileOutputStream(fileName + ".png");
+
+		try {
+			defaultContext.render(output, wordCount, frequencyTable); // Output image file
+		} finally {
+			output.close();
+		}
+	}
+
+	/**
+	* Generates and outputs a word-cloud image file from the words of the frequency table.
+	* The same seed and frequency table always produce the same image file
+	*
+	* @param fileName The name of the output image file
+	* @param wordCount The number of words to be displayed in the word-cloud
+	* @param frequencyTable The frequency table used to generate the word-cloud
+	* @param seed The seed used to choose the font-style and color of each word
+    */
+	// Running time: O(n)/linear - uses RenderContext.render() which is linear time
+	public static void outputWordCloud(String fileName, int wordCount, AbstractFrequencyTable frequencyTable, long seed)
+			throws Exception {
+		FileOutputStream output = new FileOutputStream(fileName + ".png");
+
+		try {
+			defaultContext.render(output, wordCount, frequencyTable, seed); // Output image file
+		} finally {
+			output.close();
+		}
+	}
 
+	/**
+	* Draws the words of the frequency table onto the passed-in graphics
+	*
+	* @param graphics The graphics of the image the words are drawn onto
+	* @param width The width of the image in pixels
+	* @param wordCount The number of words to be displayed in the word-cloud
+	* @param frequencyTable The frequency table used to generate the word-cloud
+	* @param random The random number generator used to choose the font-style and color of each word
+    */
+	// Running time: O(n)/linear - loops once over the words of the frequency table
+	static void drawWordCloud(Graphics graphics, int width, int wordCount, AbstractFrequencyTable frequencyTable,
+			SplittableRandom random) {
 		// Used to store x and y position of each word on the graphics
 		int x = 100;
 		int y = 100;
@@ -59,34 +97,25 @@ public class WordCloud {
 		// Used to gradually decrease the font-size for words with lower frequency
 		int fontSize = 60;
 
-		// Used to hold the words to be output, since the freqency table 
-		// is a LinkedHashMap that does not have numbered indexes 
-		ArrayList<String> words = new ArrayList<String>(); 
+		// Used to count the words drawn so far
+		int i = 0;
 
-		// Push all the keys of the sorted frequency table onto the words array
-		for (String key : frequencyTable.getTable().keySet()) {
-			words.add(key);
-		}
-
-		// Create the image file and background canvas
-		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_4BYTE_ABGR);
-		Graphics graphics = image.getGraphics();
-
-		for (int i = 0; i < wordCount; i++) {
+		// Draw the most frequent words of the sorted frequency table in order, without copying the rest of the table.
+		// The table may hold fewer words than requested, such as a quiet time window
+		for (String currentWord : frequencyTable.getTopWords(wordCount)) {
 			// If not already at minimum font size of 15 pixels, reduce font size every 2 iterations
 			if (fontSize > 15 && (i % 2 == 0)) {
 				fontSize--;
 			}
 
-			// Set random font and color
-			currentFont = selectRandomIndex(fonts); 
+			// Set random font and color. The font is a local variable so concurrent renders don't share it
+			Font currentFont = selectRandomIndex(random, fonts); 
 			currentFont = currentFont.deriveFont((float) fontSize); // Apply the correct size to the random font
 			graphics.setFont(currentFont);
 			
-			graphics.setColor(selectRandomIndex(colors));
+			graphics.setColor(selectRandomIndex(random, colors));
 
-			// Get the current word and calculate how much space to allocate it
-			String currentWord = words.get(i);
+			// Calculate how much space to allocate the current word
 			int wordSpace = (currentWord.length() * fontSize) + 30;
 
 			graphics.drawString(currentWord, x, y);
@@ -98,9 +127,48 @@ public class WordCloud {
 				x = 100;
 				y += fontSize + 30;
 			}
+
+			i++;
 		}
+	}
 
-		graphics.dispose(); // Dispose of graphics object to free up memory
-		ImageIO.write(image, "png", new File(fileName + ".png")); // Output image file
+	/**
+	* Generates and outputs a word-cloud image file of the words that are trending, meaning they
+	* occur more often in the current frequency table than the baseline frequency table would predict
+	*
+	* @param fileName The name of the output image file
+	* @param wordCount The number of words to be displayed in the word-cloud
+	* @param current The frequency table of the current time window
+	* @param baseline The frequency table the current window is compared against, such as a longer window
+    */
+	// Running time: O(n log n) - the trending words are sorted with FrequencyTable.sort() 
+	// which is O(n*log(n)), every other loop is linear
+	public static void outputTrendingWordCloud(String fileName, int wordCount, AbstractFrequencyTable current,
+			AbstractFrequencyTable baseline) throws Exception {
+		// Totals are used to scale the baseline to the size of the current window.
+		// Arrays are used because the lambdas can't assign to local variables
+		long[] currentTotal = { 0 };
+		current.forEachWord((word, frequency) -> currentTotal[0] += frequency);
+
+		long[] baselineTotal = { 0 };
+		baseline.forEachWord((word, frequency) -> baselineTotal[0] += frequency);
+
+		// Multiplying a baseline frequency by the scale gives the frequency expected in the current window
+		double scale = baselineTotal[0] > 0 ? (double) currentTotal[0] / baselineTotal[0] : 0;
+
+		FrequencyTable trending = new FrequencyTable();
+
+		current.forEachWord((word, frequency) -> {
+			double expected = baseline.getFrequency(word) * scale;
+
+			// Only words seen more often than expected are kept, setFrequency() drops the rest
+			trending.setFrequency(word, (int) Math.round(frequency - expected));
+		});
+
+		// Nothing trending is the normal state of a quiet window, so an empty word-cloud is output instead
+		if (!trending.getTable().isEmpty()) {
+			trending.sort(); // Sort so the most trending words get the largest font
+		}
+		outputWordCloud(fileName, wordCount, trending);
 	}
 }
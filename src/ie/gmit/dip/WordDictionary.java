@@ -0,0 +1,86 @@
+package ie.gmit.dip;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+* WordDictionary used to map every word to a dense int ID, shared by every InternedFrequencyTable,
+* so that each word is only stored once no matter how many tables contain it
+*/
+public class WordDictionary {
+	private static Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+	// Words indexed by their ID. Volatile so that readers see the array after it is grown
+	private static volatile String[] words = new String[1024];
+	private static int size = 0;
+
+	/**
+	* Returns the ID of the passed-in word, adding the word to the dictionary if it is not already present
+	*
+	* @param word The word whose ID is to be returned
+	* @return int The ID of the word
+    */
+	// Running time: O(1)/constant - uses ConcurrentHashMap.get() and ConcurrentHashMap.put()
+	// which are both constant time. Growing the words array is amortized constant time
+	public static int getId(String word) {
+		Integer id = ids.get(word);
+		if (id != null) { // Most words are already present, so these don't need the lock
+			return id;
+		}
+
+		synchronized (WordDictionary.class) {
+			// Check again, since another thread may have added the word while waiting for the lock
+			id = ids.get(word);
+			if (id != null) {
+				return id;
+			}
+
+			if (size == words.length) {
+				words = Arrays.copyOf(words, words.length * 2);
+			}
+
+			// Store the word before publishing its ID, so any thread that finds the ID can also find the word
+			words[size] = word;
+			ids.put(word, size);
+			return size++;
+		}
+	}
+
+	/**
+	* Returns the ID of the passed-in word without adding it to the dictionary
+	*
+	* @param word The word whose ID is to be returned
+	* @return int The ID of the word, or -1 if the word is not in the dictionary
+    */
+	// Running time: O(1)/constant - uses ConcurrentHashMap.get() which is constant time
+	public static int findId(String word) {
+		Integer id = ids.get(word);
+		if (id != null) {
+			return id;
+		} else {
+			return -1;
+		}
+	}
+
+	/**
+	* Returns the word with the passed-in ID
+	*
+	* @param id The ID returned by getId()
+	* @return String The word with that ID
+    */
+	// Running time: O(1)/constant - array access is constant time
+	public static String getWord(int id) {
+		return words[id];
+	}
+
+	/**
+	* Returns the number of words in the dictionary, which is also one more than the highest ID
+	*
+	* @return int The number of words in the dictionary
+    */
+	// Running time: O(1)/constant - uses ConcurrentHashMap.size() which is constant time
+	public static int size() {
+		return ids.size();
+	}
+}